@@ -0,0 +1,28 @@
+package com.loanapi.loadtest;
+
+// The endpoints exercised by the load test, named as they appear in the report
+public enum Endpoint {
+    CREATE_LOAN("createLoan"),
+    LIST_LOANS("listLoans"),
+    LIST_INSTALLMENTS("listInstallments"),
+    PAY_LOAN("payLoan");
+
+    private final String reportName;
+
+    Endpoint(String reportName) {
+        this.reportName = reportName;
+    }
+
+    public String getReportName() {
+        return reportName;
+    }
+
+    public static Endpoint fromReportName(String reportName) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.reportName.equals(reportName)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + reportName);
+    }
+}
@@ -0,0 +1,6 @@
+package com.loanapi.loadtest;
+
+// Measured numbers for one endpoint, as written to the report
+public record EndpointResult(long requests, long errors, double throughput,
+                             double p50Millis, double p95Millis, double p99Millis) {
+}
@@ -0,0 +1,37 @@
+package com.loanapi.loadtest;
+
+import java.util.Arrays;
+
+// Collects latencies and errors for one endpoint; safe to share between worker threads
+public class EndpointStats {
+
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private long errors;
+
+    public synchronized void record(long latencyNanos, boolean success) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    public synchronized EndpointResult toResult(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+        return new EndpointResult(count, errors, count / elapsedSeconds,
+                percentileMillis(sorted, 50), percentileMillis(sorted, 95), percentileMillis(sorted, 99));
+    }
+
+    // Nearest-rank percentile
+    static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.loanapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Machine-readable result of a run, keyed by endpoint report name.
+// The processor count of the load-generating machine is kept so baselines from other hardware stand out.
+public record LoadReport(int concurrency, long durationSeconds, int availableProcessors,
+                         Map<String, EndpointResult> endpoints) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // Allowed increase of the error rate, in absolute terms, before it counts as a regression
+    private static final double ERROR_RATE_SLACK = 0.01;
+
+    public LoadReport {
+        endpoints = new TreeMap<>(endpoints);
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        MAPPER.writeValue(file.toFile(), this);
+    }
+
+    public static LoadReport read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), LoadReport.class);
+    }
+
+    // Lists every endpoint whose throughput dropped or p95 latency grew by more than the tolerance
+    public List<String> regressionsAgainst(LoadReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, EndpointResult> entry : baseline.endpoints().entrySet()) {
+            EndpointResult expected = entry.getValue();
+            EndpointResult actual = endpoints.get(entry.getKey());
+            if (actual == null) {
+                regressions.add(entry.getKey() + ": missing from this run");
+                continue;
+            }
+            if (actual.throughput() < expected.throughput() * (1 - tolerance)) {
+                regressions.add(String.format("%s: throughput %.1f/s below baseline %.1f/s",
+                        entry.getKey(), actual.throughput(), expected.throughput()));
+            }
+            if (actual.p95Millis() > expected.p95Millis() * (1 + tolerance)) {
+                regressions.add(String.format("%s: p95 %.2fms above baseline %.2fms",
+                        entry.getKey(), actual.p95Millis(), expected.p95Millis()));
+            }
+            if (errorRate(actual) > errorRate(expected) + ERROR_RATE_SLACK) {
+                regressions.add(String.format("%s: error rate %.2f%% above baseline %.2f%%",
+                        entry.getKey(), errorRate(actual) * 100, errorRate(expected) * 100));
+            }
+        }
+        return regressions;
+    }
+
+    private static double errorRate(EndpointResult result) {
+        return result.requests() == 0 ? 0 : (double) result.errors() / result.requests();
+    }
+}
@@ -0,0 +1,109 @@
+package com.loanapi.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Replays a weighted mix of loan API calls against a running instance and reports per-endpoint numbers.
+// Start the service with --loan.seed.customers matching --customers so the load has customers to use.
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        LoanScenarios scenarios = new LoanScenarios(settings);
+
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+
+        long measureStart = System.nanoTime() + settings.getWarmup().toNanos();
+        long end = measureStart + settings.getDuration().toNanos();
+
+        System.out.printf("Running %d workers against %s: %ds warmup, %ds measured%n", settings.getConcurrency(),
+                settings.getBaseUrl(), settings.getWarmup().toSeconds(), settings.getDuration().toSeconds());
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < settings.getConcurrency(); i++) {
+            Thread worker = new Thread(() -> runWorker(settings, scenarios, stats, measureStart, end), "load-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        double elapsedSeconds = settings.getDuration().toNanos() / 1_000_000_000.0;
+        Map<String, EndpointResult> results = new LinkedHashMap<>();
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            results.put(entry.getKey().getReportName(), entry.getValue().toResult(elapsedSeconds));
+        }
+        LoadReport report = new LoadReport(settings.getConcurrency(), settings.getDuration().toSeconds(),
+                Runtime.getRuntime().availableProcessors(), results);
+        report.write(settings.getReportFile());
+
+        results.forEach((name, result) -> System.out.printf(
+                "%-17s %8d req %6d err %9.1f/s  p50 %7.2fms  p95 %7.2fms  p99 %7.2fms%n", name,
+                result.requests(), result.errors(), result.throughput(),
+                result.p50Millis(), result.p95Millis(), result.p99Millis()));
+        System.out.println("Report written to " + settings.getReportFile().toAbsolutePath());
+
+        if (settings.getBaselineFile() != null) {
+            LoadReport baseline = LoadReport.read(settings.getBaselineFile());
+            if (baseline.availableProcessors() != report.availableProcessors()
+                    || baseline.concurrency() != report.concurrency()) {
+                System.out.printf("Warning: baseline was recorded with %d processors and %d workers, this run has %d and %d%n",
+                        baseline.availableProcessors(), baseline.concurrency(),
+                        report.availableProcessors(), report.concurrency());
+            }
+            List<String> regressions = report.regressionsAgainst(baseline, settings.getTolerance());
+            if (!regressions.isEmpty()) {
+                System.out.println("Regressions against " + settings.getBaselineFile() + ":");
+                regressions.forEach(regression -> System.out.println("  " + regression));
+                System.exit(1);
+            }
+            System.out.println("No regressions against " + settings.getBaselineFile());
+        }
+    }
+
+    private static void runWorker(LoadTestSettings settings, LoanScenarios scenarios,
+                                  Map<Endpoint, EndpointStats> stats, long measureStart, long end) {
+        while (true) {
+            Endpoint endpoint = scenarios.resolve(pick(settings.getMix()));
+            long start = System.nanoTime();
+            if (start >= end) {
+                return;
+            }
+
+            boolean success;
+            try {
+                success = scenarios.run(endpoint);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                success = false;
+            }
+
+            // Requests started during warmup are not measured
+            if (start >= measureStart) {
+                stats.get(endpoint).record(System.nanoTime() - start, success);
+            }
+        }
+    }
+
+    static Endpoint pick(Map<Endpoint, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+}
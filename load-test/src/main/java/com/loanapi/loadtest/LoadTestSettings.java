@@ -0,0 +1,125 @@
+package com.loanapi.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Command line options, given as --name=value
+public class LoadTestSettings {
+
+    private static final String DEFAULT_MIX = "createLoan:20,listLoans:35,listInstallments:30,payLoan:15";
+
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final long firstCustomerId;
+    private final int customerCount;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Endpoint, Integer> mix;
+    private final Path reportFile;
+    private final Path baselineFile;
+    private final double tolerance;
+
+    private LoadTestSettings(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://127.0.0.1:8080");
+        this.username = options.getOrDefault("username", "admin");
+        this.password = options.getOrDefault("password", "adminPass");
+        this.firstCustomerId = Long.parseLong(options.getOrDefault("first-customer-id", "100000"));
+        this.customerCount = Integer.parseInt(options.getOrDefault("customers", "1000"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        this.mix = parseMix(options.getOrDefault("mix", DEFAULT_MIX));
+        this.reportFile = Path.of(options.getOrDefault("report", "target/load-test-report.json"));
+        this.baselineFile = options.containsKey("baseline") ? Path.of(options.get("baseline")) : null;
+        this.tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.2"));
+
+        if (customerCount < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("customers and concurrency must be positive");
+        }
+    }
+
+    public static LoadTestSettings parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestSettings(options);
+    }
+
+    // Parses endpoint weights such as "createLoan:20,listLoans:80"
+    static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights must not be negative: " + entry);
+            }
+            weights.put(Endpoint.fromReportName(parts[0].trim()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix must contain at least one positive weight");
+        }
+        return weights;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public long getFirstCustomerId() {
+        return firstCustomerId;
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Map<Endpoint, Integer> getMix() {
+        return mix;
+    }
+
+    public Path getReportFile() {
+        return reportFile;
+    }
+
+    public Path getBaselineFile() {
+        return baselineFile;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+}
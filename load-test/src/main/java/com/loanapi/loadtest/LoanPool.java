@@ -0,0 +1,52 @@
+package com.loanapi.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Loans created during the run, from which requests pick at random so no single loan becomes a hot key
+public class LoanPool {
+
+    private final List<Long> loanIds = new ArrayList<>();
+    private final List<PayableLoan> payableLoans = new ArrayList<>();
+
+    public record PayableLoan(long id, int paymentsMade) {
+    }
+
+    public synchronized void add(long loanId) {
+        loanIds.add(loanId);
+        payableLoans.add(new PayableLoan(loanId, 0));
+    }
+
+    public synchronized boolean hasLoans() {
+        return !loanIds.isEmpty();
+    }
+
+    public synchronized boolean hasPayableLoans() {
+        return !payableLoans.isEmpty();
+    }
+
+    // Any loan created so far, or null when there is none yet
+    public synchronized Long randomLoanId() {
+        if (loanIds.isEmpty()) {
+            return null;
+        }
+        return loanIds.get(ThreadLocalRandom.current().nextInt(loanIds.size()));
+    }
+
+    // Removes a random payable loan so no other worker pays it concurrently, or returns null
+    public synchronized PayableLoan takePayableLoan() {
+        if (payableLoans.isEmpty()) {
+            return null;
+        }
+        int index = ThreadLocalRandom.current().nextInt(payableLoans.size());
+        PayableLoan loan = payableLoans.get(index);
+        payableLoans.set(index, payableLoans.get(payableLoans.size() - 1));
+        payableLoans.remove(payableLoans.size() - 1);
+        return loan;
+    }
+
+    public synchronized void returnPayableLoan(PayableLoan loan) {
+        payableLoans.add(loan);
+    }
+}
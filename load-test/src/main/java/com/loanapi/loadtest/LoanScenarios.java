@@ -0,0 +1,114 @@
+package com.loanapi.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+// The requests of the Postman collection, driven with random customers and the loans they create
+public class LoanScenarios {
+
+    // 12000 at 20% over 12 installments is 1200 per installment
+    private static final String LOAN_REQUEST = "{\"loanAmount\": 12000, \"numberOfInstallments\": 12, \"interestRate\": 0.2}";
+    private static final String INSTALLMENT_AMOUNT = "1200";
+
+    // Only installments due within the next three months can be paid
+    private static final int PAYABLE_INSTALLMENTS = 3;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LoadTestSettings settings;
+    private final HttpClient client;
+    private final String authorization;
+    private final LoanPool loans = new LoanPool();
+
+    public LoanScenarios(LoadTestSettings settings) {
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (settings.getUsername() + ":" + settings.getPassword()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Loan-level requests need a loan created earlier in the run; until one exists, create one instead
+    public Endpoint resolve(Endpoint endpoint) {
+        if (endpoint == Endpoint.LIST_INSTALLMENTS && !loans.hasLoans()
+                || endpoint == Endpoint.PAY_LOAN && !loans.hasPayableLoans()) {
+            return Endpoint.CREATE_LOAN;
+        }
+        return endpoint;
+    }
+
+    // Runs one request against the endpoint, returning whether it succeeded
+    public boolean run(Endpoint endpoint) throws IOException, InterruptedException {
+        return switch (endpoint) {
+            case CREATE_LOAN -> createLoan();
+            case LIST_LOANS -> listLoans();
+            case LIST_INSTALLMENTS -> listInstallments();
+            case PAY_LOAN -> payLoan();
+        };
+    }
+
+    private boolean createLoan() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/v1/loans/" + randomCustomerId())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOAN_REQUEST)));
+        if (response.statusCode() != 200) {
+            return false;
+        }
+
+        JsonNode loan = MAPPER.readTree(response.body());
+        loans.add(loan.get("id").asLong());
+        return true;
+    }
+
+    private boolean listLoans() throws IOException, InterruptedException {
+        return send(request("/v1/loans/" + randomCustomerId()).GET()).statusCode() == 200;
+    }
+
+    private boolean listInstallments() throws IOException, InterruptedException {
+        Long loanId = loans.randomLoanId();
+        if (loanId == null) {
+            return createLoan();
+        }
+        return send(request("/v1/loans/" + loanId + "/installments").GET()).statusCode() == 200;
+    }
+
+    private boolean payLoan() throws IOException, InterruptedException {
+        LoanPool.PayableLoan loan = loans.takePayableLoan();
+        if (loan == null) {
+            return createLoan();
+        }
+
+        boolean paid = send(request("/v1/loans/" + loan.id() + "/pay?paymentAmount=" + INSTALLMENT_AMOUNT)
+                .POST(HttpRequest.BodyPublishers.noBody())).statusCode() == 200;
+        if (loan.paymentsMade() + 1 < PAYABLE_INSTALLMENTS) {
+            loans.returnPayableLoan(new LoanPool.PayableLoan(loan.id(), loan.paymentsMade() + 1));
+        }
+        return paid;
+    }
+
+    private long randomCustomerId() {
+        return settings.getFirstCustomerId() + ThreadLocalRandom.current().nextInt(settings.getCustomerCount());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(settings.getBaseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", authorization);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
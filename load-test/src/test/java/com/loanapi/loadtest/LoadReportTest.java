@@ -0,0 +1,64 @@
+package com.loanapi.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadReportTest {
+
+    @Test
+    void testPercentiles() {
+        EndpointStats stats = new EndpointStats();
+        for (int i = 1; i <= 100; i++) {
+            stats.record(i * 1_000_000L, i % 10 != 0);
+        }
+
+        EndpointResult result = stats.toResult(10);
+
+        assertEquals(100, result.requests());
+        assertEquals(10, result.errors());
+        assertEquals(10.0, result.throughput());
+        assertEquals(50.0, result.p50Millis());
+        assertEquals(95.0, result.p95Millis());
+        assertEquals(99.0, result.p99Millis());
+    }
+
+    @Test
+    void testRegressionsAgainstBaseline() {
+        LoadReport baseline = report(new EndpointResult(1000, 0, 100, 5, 10, 20));
+
+        assertTrue(report(new EndpointResult(1000, 0, 90, 5, 11, 20)).regressionsAgainst(baseline, 0.2).isEmpty());
+
+        List<String> regressions = report(new EndpointResult(1000, 50, 70, 5, 15, 20))
+                .regressionsAgainst(baseline, 0.2);
+        assertEquals(3, regressions.size());
+    }
+
+    @Test
+    void testReportRoundTrip(@TempDir Path directory) throws Exception {
+        LoadReport report = report(new EndpointResult(10, 1, 2.5, 1, 2, 3));
+        Path file = directory.resolve("report.json");
+
+        report.write(file);
+
+        assertEquals(report, LoadReport.read(file));
+    }
+
+    @Test
+    void testParseMix() {
+        Map<Endpoint, Integer> mix = LoadTestSettings.parseMix("createLoan:1, payLoan:3");
+
+        assertEquals(Map.of(Endpoint.CREATE_LOAN, 1, Endpoint.PAY_LOAN, 3), mix);
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix("unknown:1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix("createLoan:0"));
+    }
+
+    private static LoadReport report(EndpointResult result) {
+        return new LoadReport(4, 10, 8, Map.of(Endpoint.LIST_LOANS.getReportName(), result));
+    }
+}
@@ -0,0 +1,43 @@
+package com.loanapi.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanPoolTest {
+
+    @Test
+    void testRandomLoanIdSpreadsOverAllLoans() {
+        LoanPool pool = new LoanPool();
+        assertNull(pool.randomLoanId());
+        for (long id = 1; id <= 10; id++) {
+            pool.add(id);
+        }
+
+        Set<Long> picked = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            picked.add(pool.randomLoanId());
+        }
+
+        assertEquals(10, picked.size());
+    }
+
+    @Test
+    void testTakenLoanIsNotPayableUntilReturned() {
+        LoanPool pool = new LoanPool();
+        pool.add(1);
+
+        LoanPool.PayableLoan loan = pool.takePayableLoan();
+
+        assertEquals(1, loan.id());
+        assertFalse(pool.hasPayableLoans());
+        assertNull(pool.takePayableLoan());
+        assertEquals(1L, pool.randomLoanId());
+
+        pool.returnPayableLoan(new LoanPool.PayableLoan(1, 1));
+        assertEquals(1, pool.takePayableLoan().paymentsMade());
+    }
+}
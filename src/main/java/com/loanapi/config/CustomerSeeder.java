@@ -0,0 +1,64 @@
+package com.loanapi.config;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Seeds a block of customers with consecutive IDs, each on its owning shard, for load testing
+@Component
+public class CustomerSeeder implements ApplicationRunner {
+
+    private static final Log logger = LogFactory.getLog(CustomerSeeder.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${loan.seed.customers:0}")
+    private int customerCount;
+
+    @Value("${loan.seed.first-customer-id:100000}")
+    private long firstCustomerId;
+
+    @Value("${loan.seed.credit-limit:100000000}")
+    private BigDecimal creditLimit;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (customerCount <= 0) {
+            return;
+        }
+
+        List<List<Object[]>> rowsByShard = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            rowsByShard.add(new ArrayList<>());
+        }
+        for (long id = firstCustomerId; id < firstCustomerId + customerCount; id++) {
+            rowsByShard.get(shardRouter.shardForCustomer(id))
+                    .add(new Object[]{id, "Load", "Customer" + id, creditLimit});
+        }
+
+        for (int shard = 0; shard < rowsByShard.size(); shard++) {
+            ShardContext.set(shard);
+            try {
+                jdbcTemplate.batchUpdate("INSERT INTO customers (id, name, surname, credit_limit, used_credit_limit) "
+                        + "VALUES (?, ?, ?, ?, 0)", rowsByShard.get(shard));
+            } finally {
+                ShardContext.clear();
+            }
+        }
+
+        logger.info("Seeded " + customerCount + " customers starting at ID " + firstCustomerId);
+    }
+}
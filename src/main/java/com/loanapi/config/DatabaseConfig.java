@@ -1,21 +1,103 @@
-
 package com.loanapi.config;
 
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.StreamUtils;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 
 // Application Configuration
 @Configuration
-public class DatabaseConfig {
+public class DatabaseConfig implements DisposableBean {
+
+    private static final String SHARD_SCHEMA = "db/shard-schema.sql";
+    private static final String SHARD_DATA = "data.sql";
+
+    // The shards are not beans themselves, so they are shut down here when the context closes
+    private final List<EmbeddedDatabase> shardDatabases = new ArrayList<>();
+
+    private ShardRoutingDataSource routingDataSource;
+
     @Bean
-    public DataSource dataSource() {
-        return new EmbeddedDatabaseBuilder()
+    public DataSource dataSource(ShardRouter shardRouter) {
+        int shardCount = shardRouter.getShardCount();
+
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.put(shard, createShard(shard, shardCount));
+        }
+
+        routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(shards);
+        routingDataSource.setDefaultTargetDataSource(shards.get(0));
+        routingDataSource.afterPropertiesSet();
+
+        // Fetch the physical connection on the first statement, so the shard bound
+        // inside a transactional service method decides which database is used
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private EmbeddedDatabase createShard(int shard, int shardCount) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
                 .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
                 .build();
+        shardDatabases.add(database);
+
+        String schema = readScript(SHARD_SCHEMA)
+                .replace("${idStart}", String.valueOf(shardCount + shard))
+                .replace("${idIncrement}", String.valueOf(shardCount));
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+        populator.addScript(new ByteArrayResource(schema.getBytes(StandardCharsets.UTF_8)));
+        populator.addScript(new ClassPathResource(SHARD_DATA));
+        populator.execute(database);
+
+        // data.sql is shared by all shards, so keep only the customers this shard owns
+        new JdbcTemplate(database).update("DELETE FROM customers WHERE MOD(id, ?) <> ?", shardCount, shard);
+
+        return database;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requireBoundShard() {
+        if (routingDataSource != null) {
+            routingDataSource.requireBoundShard();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (EmbeddedDatabase database : shardDatabases) {
+            database.shutdown();
+        }
+        shardDatabases.clear();
+    }
+
+    private static String readScript(String location) {
+        try {
+            return StreamUtils.copyToString(new ClassPathResource(location).getInputStream(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + location, e);
+        }
     }
 }
@@ -1,5 +1,6 @@
 package com.loanapi.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -20,7 +21,7 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())  // Disable CSRF protection
                 .authorizeHttpRequests((authorize) -> authorize
-                        .requestMatchers("/v1/loans/**").authenticated()
+                        .requestMatchers("/v1/loans/**", "/actuator/metrics/**").authenticated()
                         .anyRequest().permitAll()
                 )
 
@@ -30,15 +31,23 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // HTTP Basic re-checks the password on every request; with BCrypt that check dominates request
+    // latency, so the loadtest profile stores the password unhashed to measure the loan code paths.
+    // InMemoryUserDetailsManager is also a UserDetailsPasswordService, which would let the first login
+    // upgrade {noop} to BCrypt; exposing only loadUserByUsername keeps the password as stored.
     @Bean
-    public UserDetailsService userDetailsService() {
-        UserDetails userDetails = User.withDefaultPasswordEncoder()
+    public UserDetailsService userDetailsService(@Value("${loan.security.hash-passwords:true}") boolean hashPasswords) {
+        User.UserBuilder user = hashPasswords
+                ? User.withDefaultPasswordEncoder()
+                : User.builder().passwordEncoder(password -> "{noop}" + password);
+        UserDetails userDetails = user
                 .username("admin")
                 .password("adminPass")
                 .roles("USER")
                 .build();
 
-        return new InMemoryUserDetailsManager(userDetails);
+        InMemoryUserDetailsManager manager = new InMemoryUserDetailsManager(userDetails);
+        return hashPasswords ? manager : manager::loadUserByUsername;
     }
 
 }
\ No newline at end of file
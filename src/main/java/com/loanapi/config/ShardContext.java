@@ -0,0 +1,22 @@
+package com.loanapi.config;
+
+// Holds the shard the current thread's database work is routed to
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static void set(int shard) {
+        CURRENT_SHARD.set(shard);
+    }
+
+    public static Integer get() {
+        return CURRENT_SHARD.get();
+    }
+
+    public static void clear() {
+        CURRENT_SHARD.remove();
+    }
+}
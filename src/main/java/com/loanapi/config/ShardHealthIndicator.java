@@ -0,0 +1,34 @@
+package com.loanapi.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Replaces the default database health check, which would query without a shard bound
+@Component
+public class ShardHealthIndicator extends AbstractHealthIndicator {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            ShardContext.set(shard);
+            try {
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            } finally {
+                ShardContext.clear();
+            }
+        }
+        builder.up().withDetail("shards", shardRouter.getShardCount());
+    }
+}
@@ -0,0 +1,37 @@
+package com.loanapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Maps customer and loan IDs to the shard that owns them
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(@Value("${loan.shards.count:1}") int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForCustomer(Long customerId) {
+        if (customerId == null) {
+            throw new IllegalArgumentException("Customer not found");
+        }
+        return Math.floorMod(customerId, shardCount);
+    }
+
+    // Loan IDs are generated in the owning customer's shard, so they route the same way
+    public int shardForLoan(Long loanId) {
+        if (loanId == null) {
+            throw new IllegalArgumentException("Loan not found");
+        }
+        return Math.floorMod(loanId, shardCount);
+    }
+}
@@ -0,0 +1,24 @@
+package com.loanapi.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Picks the shard database bound to the current thread. Unbound lookups fall back to the default
+// shard only during startup (Hibernate reading connection metadata); afterwards they fail, so a
+// code path that forgets to bind a shard cannot silently read or write the wrong one.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private volatile boolean requireBoundShard;
+
+    public void requireBoundShard() {
+        this.requireBoundShard = true;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.get();
+        if (shard == null && requireBoundShard) {
+            throw new IllegalStateException("No shard bound to the current thread");
+        }
+        return shard;
+    }
+}
@@ -1,18 +1,26 @@
 
 package com.loanapi.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.loanapi.dto.ErrorResponse;
 import com.loanapi.dto.PaymentResult;
 import com.loanapi.entity.Loan;
 import com.loanapi.entity.LoanInstallment;
 import com.loanapi.exception.LoanApiException;
+import com.loanapi.service.ExportFormat;
+import com.loanapi.service.InstallmentExportService;
 import com.loanapi.service.LoanService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -21,6 +29,12 @@ public class LoanController {
     @Autowired
     private LoanService loanService;
 
+    @Autowired
+    private InstallmentExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
 
     @PostMapping("/{customerId}")
     public ResponseEntity<?> createLoan(@PathVariable Long customerId,
@@ -42,7 +56,8 @@ public class LoanController {
     }
 
     @GetMapping("/{customerId}")
-    public ResponseEntity<?> listLoans(@PathVariable Long customerId) {
+    public ResponseEntity<?> listLoans(@PathVariable Long customerId,
+                                       @RequestParam(defaultValue = "false") boolean includeArchived) {
 
         if (isNullOrLessThanOne(customerId)) {
             return ResponseEntity
@@ -51,7 +66,7 @@ public class LoanController {
         }
 
         try {
-            List<Loan> loans = loanService.listLoans(customerId);
+            List<Loan> loans = loanService.listLoans(customerId, includeArchived);
             return ResponseEntity.ok(loans);
         } catch (IllegalArgumentException e) {
             return ResponseEntity
@@ -112,6 +127,57 @@ public class LoanController {
         }
     }
 
+    // Streams every installment, paid or not, of a customer and/or due within a date range
+    @GetMapping("/export/installments")
+    public ResponseEntity<StreamingResponseBody> exportInstallments(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+
+        if (customerId != null && customerId < 1) {
+            return streamedError(HttpStatus.BAD_REQUEST,
+                    new ErrorResponse("Invalid customer ID", "Customer ID must be a positive number"));
+        }
+
+        if (customerId == null && from == null && to == null) {
+            return streamedError(HttpStatus.BAD_REQUEST,
+                    new ErrorResponse("Missing filter", "A customer ID or a due date range is required"));
+        }
+
+        if (from != null && to != null && from.isAfter(to)) {
+            return streamedError(HttpStatus.BAD_REQUEST,
+                    new ErrorResponse("Invalid date range", "From date must not be after to date"));
+        }
+
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return streamedError(HttpStatus.BAD_REQUEST,
+                    new ErrorResponse("Invalid format", e.getMessage()));
+        }
+
+        String fileName = "installments." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = outputStream ->
+                exportService.exportInstallments(customerId, from, to, exportFormat, gzip, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    // Streaming endpoints must return a StreamingResponseBody, so errors are written as JSON by hand
+    private ResponseEntity<StreamingResponseBody> streamedError(HttpStatus status, ErrorResponse error) {
+        return ResponseEntity
+                .status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> objectMapper.writeValue(outputStream, error));
+    }
+
     private static boolean isNullOrLessThanOne(Long Id) {
         return Id == null || Id < 1;
     }
@@ -39,4 +39,7 @@ public class Loan {
 
     @Column(name = "is_paid")
     private Boolean isPaid = false;
+
+    @Column(name = "paid_date")
+    private LocalDate paidDate;
 }
@@ -0,0 +1,32 @@
+package com.loanapi.repository;
+
+import com.loanapi.entity.ArchivedLoan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedLoanRepository extends JpaRepository<ArchivedLoan, Long> {
+    List<ArchivedLoan> findByCustomerId(Long customerId);
+
+    // Copies loans into the archive table in a single statement
+    @Modifying
+    @Query(value = "INSERT INTO archived_loans (id, customer_id, loan_amount, total_loan_amount, interest_rate, "
+            + "number_of_installments, create_date, is_paid, paid_date, archived_date) "
+            + "SELECT id, customer_id, loan_amount, total_loan_amount, interest_rate, "
+            + "number_of_installments, create_date, is_paid, paid_date, CURRENT_DATE FROM loans WHERE id IN (:loanIds)",
+            nativeQuery = true)
+    int archiveLoans(@Param("loanIds") List<Long> loanIds);
+
+    // Copies the installments of the given loans into the archive table in a single statement
+    @Modifying
+    @Query(value = "INSERT INTO archived_loan_installments (id, loan_id, amount, paid_amount, due_date, payment_date, is_paid) "
+            + "SELECT id, loan_id, amount, paid_amount, due_date, payment_date, is_paid "
+            + "FROM loan_installments WHERE loan_id IN (:loanIds)",
+            nativeQuery = true)
+    int archiveInstallments(@Param("loanIds") List<Long> loanIds);
+}
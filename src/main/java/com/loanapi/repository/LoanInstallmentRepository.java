@@ -1,8 +1,10 @@
-
 package com.loanapi.repository;
 
 import com.loanapi.entity.LoanInstallment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,8 @@ import java.util.List;
 @Repository
 public interface LoanInstallmentRepository extends JpaRepository<LoanInstallment, Long> {
     List<LoanInstallment> findByLoanIdAndIsPaidFalseOrderByDueDateAsc(Long loanId);
+
+    @Modifying
+    @Query("DELETE FROM LoanInstallment i WHERE i.loan.id IN :loanIds")
+    int deleteByLoanIdIn(@Param("loanIds") List<Long> loanIds);
 }
@@ -1,13 +1,24 @@
-
 package com.loanapi.repository;
 
 import com.loanapi.entity.Loan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
     List<Loan> findByCustomerId(Long customerId);
+
+    @Query("SELECT l.id FROM Loan l WHERE l.isPaid = true AND l.paidDate < :cutoff ORDER BY l.id")
+    List<Long> findLoanIdsPaidBefore(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Loan l WHERE l.id IN :loanIds")
+    int deleteByIdIn(@Param("loanIds") List<Long> loanIds);
 }
@@ -0,0 +1,204 @@
+package com.loanapi.service;
+
+import com.loanapi.config.ShardContext;
+import com.loanapi.config.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Streams full installment schedules, paid, unpaid and archived, row by row from the database
+@Service
+public class InstallmentExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] FIELDS = {"customer_id", "loan_id", "installment_id", "amount", "paid_amount",
+            "due_date", "payment_date", "is_paid", "archived"};
+
+    private static final String CSV_HEADER = String.join(",", FIELDS) + "\n";
+
+    private static final String COLUMNS =
+            "l.customer_id, i.loan_id, i.id, i.amount, i.paid_amount, i.due_date, i.payment_date, i.is_paid";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    public InstallmentExportService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Either filter may be null, but the controller makes sure at least one is given
+    public void exportInstallments(Long customerId, LocalDate from, LocalDate to, ExportFormat format,
+                                   boolean gzip, OutputStream outputStream) throws IOException {
+        List<Object> args = new ArrayList<>();
+        String sql = buildQuery(customerId, from, to, args);
+
+        // A customer lives on one shard; a date range has to visit all of them
+        List<Integer> shards = new ArrayList<>();
+        if (customerId != null) {
+            shards.add(shardRouter.shardForCustomer(customerId));
+        } else {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                shards.add(shard);
+            }
+        }
+
+        // Closing the gzip stream releases its native Deflater on success and on error;
+        // the servlet stream underneath is left open for the container to close
+        try (GZIPOutputStream gzipStream = gzip
+                ? new GZIPOutputStream(StreamUtils.nonClosing(outputStream), BUFFER_SIZE) : null) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? gzipStream : outputStream,
+                    StandardCharsets.UTF_8), BUFFER_SIZE);
+
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+
+            StringBuilder line = new StringBuilder(128);
+            for (int shard : shards) {
+                ShardContext.set(shard);
+                try {
+                    jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                        streamRows(connection, sql, args, format, line, writer);
+                        return null;
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                } finally {
+                    ShardContext.clear();
+                }
+            }
+
+            writer.flush();
+        }
+        outputStream.flush();
+    }
+
+    // H2 materializes a whole result before returning its first row unless lazy query execution is
+    // on; it is switched on for the export's connection only and switched back off afterwards
+    private static void streamRows(Connection connection, String sql, List<Object> args, ExportFormat format,
+                                   StringBuilder line, Writer writer) throws SQLException {
+        try (Statement session = connection.createStatement()) {
+            session.execute("SET LAZY_QUERY_EXECUTION TRUE");
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    line.setLength(0);
+                    appendRow(line, resultSet, format);
+                    writer.write(line.toString());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } finally {
+            try (Statement session = connection.createStatement()) {
+                session.execute("SET LAZY_QUERY_EXECUTION FALSE");
+            }
+        }
+    }
+
+    // Hot and archived installments, without ORDER BY so rows flow as they are read
+    private static String buildQuery(Long customerId, LocalDate from, LocalDate to, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> whereArgs = new ArrayList<>();
+        if (customerId != null) {
+            where.append(" AND l.customer_id = ?");
+            whereArgs.add(customerId);
+        }
+        if (from != null) {
+            where.append(" AND i.due_date >= ?");
+            whereArgs.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            where.append(" AND i.due_date <= ?");
+            whereArgs.add(Date.valueOf(to));
+        }
+
+        args.addAll(whereArgs);
+        args.addAll(whereArgs);
+        return "SELECT " + COLUMNS + ", FALSE AS archived FROM loan_installments i JOIN loans l ON l.id = i.loan_id"
+                + where
+                + " UNION ALL SELECT " + COLUMNS + ", TRUE AS archived FROM archived_loan_installments i"
+                + " JOIN archived_loans l ON l.id = i.loan_id"
+                + where;
+    }
+
+    private static void appendRow(StringBuilder line, ResultSet resultSet, ExportFormat format) throws SQLException {
+        Object[] values = {
+                resultSet.getLong(1),
+                resultSet.getLong(2),
+                resultSet.getLong(3),
+                resultSet.getBigDecimal(4),
+                resultSet.getBigDecimal(5),
+                resultSet.getDate(6),
+                resultSet.getDate(7),
+                resultSet.getObject(8, Boolean.class),
+                resultSet.getBoolean(9)
+        };
+
+        if (format == ExportFormat.CSV) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                if (values[i] != null) {
+                    line.append(values[i]);
+                }
+            }
+        } else {
+            line.append('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append('"').append(FIELDS[i]).append("\":");
+                appendJsonValue(line, values[i]);
+            }
+            line.append('}');
+        }
+        line.append('\n');
+    }
+
+    // Values are numbers, booleans or dates, so only dates need quoting
+    private static void appendJsonValue(StringBuilder line, Object value) {
+        if (value == null) {
+            line.append("null");
+        } else if (value instanceof Date) {
+            line.append('"').append(value).append('"');
+        } else {
+            line.append(value);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.loanapi.service;
+
+import com.loanapi.config.ShardRouter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+public class LoanArchiveScheduler {
+
+    private static final Log logger = LogFactory.getLog(LoanArchiveScheduler.class);
+
+    @Autowired
+    private LoanArchiveService archiveService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${loan.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${loan.archive.min-age-days:365}")
+    private int minAgeDays;
+
+    @Value("${loan.archive.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${loan.archive.interval-ms:3600000}",
+            fixedDelayString = "${loan.archive.interval-ms:3600000}")
+    public void archivePaidLoans() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDate cutoff = LocalDate.now().minusDays(minAgeDays);
+
+        // Keep taking batches until a shard has nothing paid before the cutoff left
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            int total = 0;
+            int archived;
+            do {
+                archived = archiveService.archiveBatch(shard, cutoff, batchSize);
+                total += archived;
+            } while (archived == batchSize);
+
+            if (total > 0) {
+                logger.info("Archived " + total + " paid loans on shard " + shard);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.loanapi.service;
+
+import com.loanapi.config.ShardContext;
+import com.loanapi.repository.ArchivedLoanRepository;
+import com.loanapi.repository.LoanInstallmentRepository;
+import com.loanapi.repository.LoanRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class LoanArchiveService {
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanInstallmentRepository installmentRepository;
+
+    @Autowired
+    private ArchivedLoanRepository archivedLoanRepository;
+
+    @Autowired
+    private LoanService loanService;
+
+    // Moves up to batchSize loans fully paid before the cutoff, with their installments,
+    // from the hot tables of one shard into the archive tables in a single transaction
+    @Transactional
+    public int archiveBatch(int shard, LocalDate cutoff, int batchSize) {
+        ShardContext.set(shard);
+        try {
+            List<Long> loanIds = loanRepository.findLoanIdsPaidBefore(cutoff, PageRequest.of(0, batchSize));
+            if (loanIds.isEmpty()) {
+                return 0;
+            }
+
+            archivedLoanRepository.archiveLoans(loanIds);
+            archivedLoanRepository.archiveInstallments(loanIds);
+            installmentRepository.deleteByLoanIdIn(loanIds);
+            loanRepository.deleteByIdIn(loanIds);
+            loanService.forgetAllLoanListsAfterCommit();
+
+            return loanIds.size();
+        } finally {
+            ShardContext.clear();
+        }
+    }
+}
@@ -1,11 +1,15 @@
 
 package com.loanapi.service;
 
+import com.loanapi.config.ShardContext;
+import com.loanapi.config.ShardRouter;
 import com.loanapi.dto.PaymentResult;
+import com.loanapi.entity.ArchivedLoan;
 import com.loanapi.entity.Customer;
 import com.loanapi.entity.Loan;
 import com.loanapi.entity.LoanInstallment;
 import com.loanapi.exception.LoanApiException;
+import com.loanapi.repository.ArchivedLoanRepository;
 import com.loanapi.repository.CustomerRepository;
 import com.loanapi.repository.LoanRepository;
 import com.loanapi.repository.LoanInstallmentRepository;
@@ -36,6 +40,19 @@ public class LoanService {
     @Autowired
     private LoanInstallmentRepository installmentRepository;
 
+    @Autowired
+    private ArchivedLoanRepository archivedLoanRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    // Concurrent identical reads share one query; results are shared, so callers must not modify them
+    private final SingleFlight<LoanListKey, List<Loan>> loanListFlight = new SingleFlight<>();
+    private final SingleFlight<Long, List<LoanInstallment>> installmentListFlight = new SingleFlight<>();
+
+    private record LoanListKey(Long customerId, boolean includeArchived) {
+    }
+
     // Validate loan creation parameters
     private void validateLoanCreation(Customer customer, Loan loan) {
         // Check credit limit
@@ -56,8 +73,19 @@ public class LoanService {
         }
     }
 
+    // Each operation is local to one shard: the shard is bound before the first query
+    // opens a connection and released once the method is done with the database
     @Transactional
     public Loan createLoan(Long customerId,Loan loan) {
+        ShardContext.set(shardRouter.shardForCustomer(customerId));
+        try {
+            return createLoanOnShard(customerId, loan);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private Loan createLoanOnShard(Long customerId, Loan loan) {
         // Fetch customer
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
@@ -83,6 +111,8 @@ public class LoanService {
         customer.setUsedCreditLimit(customer.getUsedCreditLimit().add(loan.getLoanAmount()));
         customerRepository.save(customer);
 
+        forgetLoanLists(customerId);
+
         return loan;
     }
 
@@ -109,15 +139,82 @@ public class LoanService {
     }
 
     public List<Loan> listLoans(Long customerId) {
-        return loanRepository.findByCustomerId(customerId);
+        return listLoans(customerId, false);
+    }
+
+    // Archived loans are only read when explicitly requested
+    public List<Loan> listLoans(Long customerId, boolean includeArchived) {
+        return loanListFlight.execute(new LoanListKey(customerId, includeArchived),
+                () -> loadLoans(customerId, includeArchived));
+    }
+
+    private List<Loan> loadLoans(Long customerId, boolean includeArchived) {
+        ShardContext.set(shardRouter.shardForCustomer(customerId));
+        try {
+            List<Loan> loans = loanRepository.findByCustomerId(customerId);
+            if (!includeArchived) {
+                return loans;
+            }
+
+            List<Loan> allLoans = new ArrayList<>(loans);
+            for (ArchivedLoan archivedLoan : archivedLoanRepository.findByCustomerId(customerId)) {
+                allLoans.add(toLoan(archivedLoan));
+            }
+            return allLoans;
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private void forgetLoanLists(Long customerId) {
+        loanListFlight.forgetAfterCommit(new LoanListKey(customerId, false));
+        loanListFlight.forgetAfterCommit(new LoanListKey(customerId, true));
+    }
+
+    // Archiving moves loans of many customers at once
+    public void forgetAllLoanListsAfterCommit() {
+        loanListFlight.forgetAllAfterCommit();
+    }
+
+    public SingleFlight<?, ?> getLoanListFlight() {
+        return loanListFlight;
+    }
+
+    public SingleFlight<?, ?> getInstallmentListFlight() {
+        return installmentListFlight;
+    }
+
+    private static Loan toLoan(ArchivedLoan archivedLoan) {
+        return new Loan(archivedLoan.getId(), archivedLoan.getCustomer(), archivedLoan.getLoanAmount(),
+                archivedLoan.getTotalLoanAmount(), archivedLoan.getInterestRate(),
+                archivedLoan.getNumberOfInstallments(), archivedLoan.getCreateDate(), archivedLoan.getIsPaid(),
+                archivedLoan.getPaidDate());
     }
 
     public List<LoanInstallment> listInstallments(Long loanId) {
-        return installmentRepository.findByLoanIdAndIsPaidFalseOrderByDueDateAsc(loanId);
+        return installmentListFlight.execute(loanId, () -> loadInstallments(loanId));
+    }
+
+    private List<LoanInstallment> loadInstallments(Long loanId) {
+        ShardContext.set(shardRouter.shardForLoan(loanId));
+        try {
+            return installmentRepository.findByLoanIdAndIsPaidFalseOrderByDueDateAsc(loanId);
+        } finally {
+            ShardContext.clear();
+        }
     }
 
     @Transactional
     public PaymentResult payLoan(Long loanId, BigDecimal paymentAmount) throws LoanApiException {
+        ShardContext.set(shardRouter.shardForLoan(loanId));
+        try {
+            return payLoanOnShard(loanId, paymentAmount);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private PaymentResult payLoanOnShard(Long loanId, BigDecimal paymentAmount) throws LoanApiException {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new IllegalArgumentException("Loan not found"));
 
@@ -165,6 +262,10 @@ public class LoanService {
 
         // Save updated installments
         installmentRepository.saveAll(unpaidInstallments);
+        installmentListFlight.forgetAfterCommit(loanId);
+        if (loan.getCustomer() != null) {
+            forgetLoanLists(loan.getCustomer().getId());
+        }
 
         // Check if loan is fully paid
         long remainingUnpaidInstallments = unpaidInstallments.stream()
@@ -173,6 +274,7 @@ public class LoanService {
 
         if (remainingUnpaidInstallments == 0) {
             loan.setIsPaid(true);
+            loan.setPaidDate(now);
             loanRepository.save(loan);
         }
 
@@ -0,0 +1,31 @@
+package com.loanapi.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// Publishes how many list reads ran a query and how many joined one already in flight
+@Component
+public class LoanServiceMetrics {
+
+    public LoanServiceMetrics(LoanService loanService, MeterRegistry registry) {
+        register(registry, "listLoans", loanService.getLoanListFlight());
+        register(registry, "listInstallments", loanService.getInstallmentListFlight());
+    }
+
+    private static void register(MeterRegistry registry, String operation, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("loan.coalescing.executed", flight, SingleFlight::getExecutedCount)
+                .description("Reads that ran their own query")
+                .tag("operation", operation)
+                .register(registry);
+        FunctionCounter.builder("loan.coalescing.coalesced", flight, SingleFlight::getCoalescedCount)
+                .description("Reads that shared the result of a query already in flight")
+                .tag("operation", operation)
+                .register(registry);
+        Gauge.builder("loan.coalescing.ratio", flight, SingleFlight::getCoalescingRatio)
+                .description("Share of reads served by another read's query")
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
@@ -0,0 +1,61 @@
+-- Identity columns are strided by shard: every ID generated on shard N satisfies id % shardCount = N
+CREATE TABLE customers (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY (START WITH ${idStart} INCREMENT BY ${idIncrement}) PRIMARY KEY,
+    name VARCHAR(255),
+    surname VARCHAR(255),
+    credit_limit NUMERIC(38,2),
+    used_credit_limit NUMERIC(38,2)
+);
+
+CREATE TABLE loans (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY (START WITH ${idStart} INCREMENT BY ${idIncrement}) PRIMARY KEY,
+    customer_id BIGINT REFERENCES customers(id),
+    loan_amount NUMERIC(38,2),
+    total_loan_amount NUMERIC(38,2),
+    interest_rate NUMERIC(38,2),
+    number_of_installments INTEGER,
+    create_date DATE,
+    is_paid BOOLEAN,
+    paid_date DATE
+);
+
+CREATE TABLE loan_installments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY (START WITH ${idStart} INCREMENT BY ${idIncrement}) PRIMARY KEY,
+    loan_id BIGINT REFERENCES loans(id),
+    amount NUMERIC(38,2),
+    paid_amount NUMERIC(38,2),
+    due_date DATE,
+    payment_date DATE,
+    is_paid BOOLEAN
+);
+
+CREATE INDEX idx_loans_customer_id ON loans(customer_id);
+CREATE INDEX idx_loan_installments_loan_id ON loan_installments(loan_id);
+CREATE INDEX idx_loans_paid_date ON loans(is_paid, paid_date);
+
+-- Cold storage for fully paid loans moved out of the hot tables by the archiver; IDs are kept as-is
+CREATE TABLE archived_loans (
+    id BIGINT PRIMARY KEY,
+    customer_id BIGINT REFERENCES customers(id),
+    loan_amount NUMERIC(38,2),
+    total_loan_amount NUMERIC(38,2),
+    interest_rate NUMERIC(38,2),
+    number_of_installments INTEGER,
+    create_date DATE,
+    is_paid BOOLEAN,
+    paid_date DATE,
+    archived_date DATE
+);
+
+CREATE TABLE archived_loan_installments (
+    id BIGINT PRIMARY KEY,
+    loan_id BIGINT REFERENCES archived_loans(id),
+    amount NUMERIC(38,2),
+    paid_amount NUMERIC(38,2),
+    due_date DATE,
+    payment_date DATE,
+    is_paid BOOLEAN
+);
+
+CREATE INDEX idx_archived_loans_customer_id ON archived_loans(customer_id);
+CREATE INDEX idx_archived_loan_installments_loan_id ON archived_loan_installments(loan_id);
@@ -1,5 +1,6 @@
 package com.loanapi;
 
+import com.loanapi.config.ShardContext;
 import com.loanapi.repository.CustomerRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +17,11 @@ public class LoanApplicationTests {
 
     @Test
     void contextLoads() {
-        assertEquals(1, customerRepository.findAll().size());
+        ShardContext.set(0);
+        try {
+            assertEquals(1, customerRepository.findAll().size());
+        } finally {
+            ShardContext.clear();
+        }
     }
 }
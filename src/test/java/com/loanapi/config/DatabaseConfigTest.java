@@ -0,0 +1,36 @@
+package com.loanapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConfigTest {
+
+    @Test
+    void testShardsAreShutDownOnDestroy() {
+        DatabaseConfig config = new DatabaseConfig();
+        DataSource dataSource = config.dataSource(new ShardRouter(2));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Customer 1001 from data.sql is only kept on its owning shard
+        for (int shard = 0; shard < 2; shard++) {
+            ShardContext.set(shard);
+            try {
+                assertEquals(shard == 1 ? 1 : 0,
+                        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Integer.class));
+            } finally {
+                ShardContext.clear();
+            }
+        }
+
+        config.destroy();
+
+        // A shut down in-memory database comes back empty on the next connection
+        assertThrows(DataAccessException.class,
+                () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Integer.class));
+    }
+}
@@ -0,0 +1,32 @@
+package com.loanapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "loan.security.hash-passwords=false")
+class SecurityConfigTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    // A successful login must not upgrade the unhashed password to BCrypt
+    @Test
+    void testUnhashedPasswordSurvivesLogins() {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(HttpStatus.OK, restTemplate.withBasicAuth("admin", "adminPass")
+                    .getForEntity("/v1/loans/1001", String.class).getStatusCode());
+        }
+
+        assertEquals("{noop}adminPass", userDetailsService.loadUserByUsername("admin").getPassword());
+    }
+}
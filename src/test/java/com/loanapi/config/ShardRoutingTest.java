@@ -0,0 +1,149 @@
+package com.loanapi.config;
+
+import com.loanapi.dto.PaymentResult;
+import com.loanapi.entity.Customer;
+import com.loanapi.entity.Loan;
+import com.loanapi.repository.CustomerRepository;
+import com.loanapi.repository.LoanRepository;
+import com.loanapi.service.LoanService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "loan.shards.count=4")
+class ShardRoutingTest {
+
+    private static final int LOANS_PER_CUSTOMER = 20;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Test
+    void testLoansStayOnOwningShard() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            Customer customer = createCustomerOnShard(shard);
+            assertEquals(shard, shardRouter.shardForCustomer(customer.getId()));
+
+            Loan loan = loanService.createLoan(customer.getId(), newLoan());
+            assertEquals(shard, shardRouter.shardForLoan(loan.getId()));
+
+            assertEquals(1, loanService.listLoans(customer.getId()).size());
+            assertEquals(12, loanService.listInstallments(loan.getId()).size());
+
+            for (int other = 0; other < shardRouter.getShardCount(); other++) {
+                ShardContext.set(other);
+                try {
+                    assertEquals(other == shard, loanRepository.findById(loan.getId()).isPresent());
+                } finally {
+                    ShardContext.clear();
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSeedCustomerOnlyOnOwningShard() {
+        int owner = shardRouter.shardForCustomer(1001L);
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            ShardContext.set(shard);
+            try {
+                assertEquals(shard == owner, customerRepository.existsById(1001L));
+            } finally {
+                ShardContext.clear();
+            }
+        }
+    }
+
+    @Test
+    void testUnboundQueryFails() {
+        Exception exception = assertThrows(Exception.class, () -> customerRepository.findById(1001L));
+        assertInstanceOf(IllegalStateException.class, NestedExceptionUtils.getMostSpecificCause(exception));
+    }
+
+    @Test
+    void testConcurrentOriginationAndPaymentAcrossShards() throws Exception {
+        List<Customer> spread = createCustomersOnEachShard();
+
+        runWorkload(spread);
+
+        for (Customer customer : spread) {
+            ShardContext.set(shardRouter.shardForCustomer(customer.getId()));
+            try {
+                Customer reloaded = customerRepository.findById(customer.getId()).orElseThrow();
+                assertEquals(0, BigDecimal.valueOf(1000L * LOANS_PER_CUSTOMER).compareTo(reloaded.getUsedCreditLimit()));
+            } finally {
+                ShardContext.clear();
+            }
+            assertEquals(LOANS_PER_CUSTOMER, loanService.listLoans(customer.getId()).size());
+        }
+    }
+
+    // Runs one worker per customer, each creating loans and paying their first installment
+    private void runWorkload(List<Customer> customers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(customers.size());
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (Customer customer : customers) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < LOANS_PER_CUSTOMER; i++) {
+                        Loan loan = loanService.createLoan(customer.getId(), newLoan());
+                        PaymentResult result = loanService.payLoan(loan.getId(), BigDecimal.valueOf(100));
+                        assertEquals(1, result.getInstallmentsPaid());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<Customer> createCustomersOnEachShard() {
+        List<Customer> customers = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            customers.add(createCustomerOnShard(shard));
+        }
+        return customers;
+    }
+
+    private Customer createCustomerOnShard(int shard) {
+        ShardContext.set(shard);
+        try {
+            return customerRepository.save(new Customer(null, "Shard", "Customer" + shard,
+                    BigDecimal.valueOf(1_000_000), BigDecimal.ZERO));
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    // 1000 at 20% over 12 installments is 100 per installment
+    private static Loan newLoan() {
+        Loan loan = new Loan();
+        loan.setLoanAmount(BigDecimal.valueOf(1000));
+        loan.setNumberOfInstallments(12);
+        loan.setInterestRate(BigDecimal.valueOf(0.2));
+        return loan;
+    }
+}
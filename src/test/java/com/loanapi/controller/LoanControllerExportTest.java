@@ -0,0 +1,63 @@
+package com.loanapi.controller;
+
+import com.loanapi.service.ExportFormat;
+import com.loanapi.service.InstallmentExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoanControllerExportTest {
+
+    private static final long CONTAINER_ASYNC_TIMEOUT_MILLIS = 1000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockitoBean
+    private InstallmentExportService exportService;
+
+    // Stands in for Tomcat's 30s default with something a test can outlast
+    @TestConfiguration
+    static class ShortContainerTimeout {
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> shortAsyncTimeout() {
+            return factory -> factory.addConnectorCustomizers(
+                    connector -> connector.setAsyncTimeout(CONTAINER_ASYNC_TIMEOUT_MILLIS));
+        }
+    }
+
+    @Test
+    void testExportOutlastsContainerAsyncTimeout() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(5);
+            outputStream.write("first\n".getBytes(StandardCharsets.UTF_8));
+            outputStream.flush();
+            Thread.sleep(CONTAINER_ASYNC_TIMEOUT_MILLIS * 3);
+            outputStream.write("last\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportInstallments(eq(1001L), isNull(), isNull(), eq(ExportFormat.CSV),
+                eq(false), any(OutputStream.class));
+
+        ResponseEntity<String> response = restTemplate.withBasicAuth("admin", "adminPass")
+                .getForEntity("/v1/loans/export/installments?customerId=1001", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("first\nlast\n", response.getBody());
+    }
+}
@@ -0,0 +1,111 @@
+package com.loanapi.service;
+
+import com.loanapi.entity.Loan;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class InstallmentExportServiceTest {
+
+    private static final Long CUSTOMER_ID = 1001L;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private InstallmentExportService exportService;
+
+    @Test
+    void testCsvExportIncludesPaidInstallments() throws Exception {
+        Loan loan = createLoan();
+        loanService.payLoan(loan.getId(), new BigDecimal("200.00"));
+
+        List<String> lines = export(ExportFormat.CSV, false);
+        List<String> loanLines = lines.stream()
+                .filter(line -> line.startsWith(CUSTOMER_ID + "," + loan.getId() + ","))
+                .toList();
+
+        assertEquals("customer_id,loan_id,installment_id,amount,paid_amount,due_date,payment_date,is_paid,archived",
+                lines.get(0));
+        assertEquals(6, loanLines.size());
+        assertTrue(loanLines.get(0).endsWith(",true,false"));
+        assertTrue(loanLines.get(5).endsWith(",,false,false"));
+    }
+
+    @Test
+    void testGzippedNdjsonExport() throws Exception {
+        Loan loan = createLoan();
+
+        List<String> lines = export(ExportFormat.NDJSON, true).stream()
+                .filter(line -> line.contains("\"loan_id\":" + loan.getId() + ","))
+                .toList();
+
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"customer_id\":1001,"));
+        assertTrue(lines.get(0).contains("\"payment_date\":null"));
+        assertTrue(lines.get(0).contains("\"due_date\":\"" + LocalDate.now().plusMonths(1).withDayOfMonth(1) + "\""));
+    }
+
+    @Test
+    void testDateRangeExport() throws Exception {
+        createLoan();
+        LocalDate firstDueDate = LocalDate.now().plusMonths(1).withDayOfMonth(1);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportInstallments(null, firstDueDate, firstDueDate, ExportFormat.CSV, false, output);
+
+        List<String> lines = lines(output.toByteArray());
+        List<String> rows = lines.subList(1, lines.size());
+        assertFalse(rows.isEmpty());
+        assertTrue(rows.stream().allMatch(row -> row.contains("," + firstDueDate + ",")));
+    }
+
+    private List<String> export(ExportFormat format, boolean gzip) throws Exception {
+        CloseTrackingOutputStream output = new CloseTrackingOutputStream();
+        exportService.exportInstallments(CUSTOMER_ID, null, null, format, gzip, output);
+        // The response stream belongs to the container, even when the gzip stream on top of it is closed
+        assertFalse(output.closed);
+
+        byte[] bytes = output.toByteArray();
+        if (gzip) {
+            try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                bytes = input.readAllBytes();
+            }
+        }
+        return lines(bytes);
+    }
+
+    private static List<String> lines(byte[] bytes) {
+        return Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split("\n"));
+    }
+
+    private static class CloseTrackingOutputStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    // 1000 at 20% over 6 installments is 200 per installment
+    private Loan createLoan() {
+        Loan loan = new Loan();
+        loan.setLoanAmount(BigDecimal.valueOf(1000));
+        loan.setNumberOfInstallments(6);
+        loan.setInterestRate(BigDecimal.valueOf(0.2));
+        return loanService.createLoan(CUSTOMER_ID, loan);
+    }
+}
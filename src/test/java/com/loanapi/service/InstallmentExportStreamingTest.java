@@ -0,0 +1,88 @@
+package com.loanapi.service;
+
+import com.loanapi.config.ShardContext;
+import com.loanapi.config.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own context, so the bulk rows below do not slow down tests sharing the default one
+@SpringBootTest(properties = "loan.archive.enabled=false")
+class InstallmentExportStreamingTest {
+
+    private static final long CUSTOMER_ID = 2001L;
+    private static final int LOANS = 20_000;
+    private static final int INSTALLMENTS_PER_LOAN = 12;
+
+    @Autowired
+    private InstallmentExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    // Without lazy query execution H2 builds the whole result before the first row comes back,
+    // so the first byte would only be written near the end of the export
+    @Test
+    void testFirstRowsAreWrittenBeforeTheResultIsComplete() throws Exception {
+        ShardContext.set(shardRouter.shardForCustomer(CUSTOMER_ID));
+        try {
+            insertRows();
+        } finally {
+            ShardContext.clear();
+        }
+
+        // Warm up the export path before timing it
+        exportService.exportInstallments(CUSTOMER_ID, null, null, ExportFormat.CSV, false, OutputStream.nullOutputStream());
+
+        TimingOutputStream output = new TimingOutputStream();
+        long start = System.nanoTime();
+        exportService.exportInstallments(CUSTOMER_ID, null, null, ExportFormat.CSV, false, output);
+        long total = System.nanoTime() - start;
+
+        assertTrue(output.lines > LOANS * INSTALLMENTS_PER_LOAN);
+        assertTrue(output.firstWriteNanos - start < total / 2,
+                "First write after " + (output.firstWriteNanos - start) / 1_000_000 + "ms of " + total / 1_000_000 + "ms");
+    }
+
+    private void insertRows() {
+        jdbcTemplate.update("INSERT INTO customers (id, name, surname, credit_limit, used_credit_limit) "
+                + "VALUES (?, 'Bulk', 'Export', 0, 0)", CUSTOMER_ID);
+        jdbcTemplate.update("INSERT INTO loans (id, customer_id, loan_amount, total_loan_amount, interest_rate, "
+                + "number_of_installments, create_date, is_paid) "
+                + "SELECT 1000000 + X, ?, 1000, 1200, 0.2, ?, CURRENT_DATE, FALSE FROM SYSTEM_RANGE(1, ?)",
+                CUSTOMER_ID, INSTALLMENTS_PER_LOAN, LOANS);
+        jdbcTemplate.update("INSERT INTO loan_installments (id, loan_id, amount, paid_amount, due_date, is_paid) "
+                + "SELECT 1000000 + X, 1000000 + (X - 1) / ? + 1, 100, 0, CURRENT_DATE, FALSE "
+                + "FROM SYSTEM_RANGE(1, ?)", INSTALLMENTS_PER_LOAN, LOANS * INSTALLMENTS_PER_LOAN);
+    }
+
+    private static class TimingOutputStream extends OutputStream {
+        private long firstWriteNanos;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            if (firstWriteNanos == 0) {
+                firstWriteNanos = System.nanoTime();
+            }
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
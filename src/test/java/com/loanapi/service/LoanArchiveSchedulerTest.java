@@ -0,0 +1,70 @@
+package com.loanapi.service;
+
+import com.loanapi.config.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class LoanArchiveSchedulerTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private LoanArchiveService archiveService;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(2);
+
+    @InjectMocks
+    private LoanArchiveScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "minAgeDays", 365);
+        ReflectionTestUtils.setField(scheduler, "batchSize", BATCH_SIZE);
+    }
+
+    @Test
+    void testFullBatchesAreRepeatedUntilShardIsDrained() {
+        LocalDate cutoff = LocalDate.now().minusDays(365);
+        when(archiveService.archiveBatch(0, cutoff, BATCH_SIZE)).thenReturn(2, 2, 1);
+        when(archiveService.archiveBatch(1, cutoff, BATCH_SIZE)).thenReturn(0);
+
+        scheduler.archivePaidLoans();
+
+        verify(archiveService, times(3)).archiveBatch(0, cutoff, BATCH_SIZE);
+        verify(archiveService, times(1)).archiveBatch(1, cutoff, BATCH_SIZE);
+    }
+
+    @Test
+    void testExactlyFullLastBatchTakesOneMoreEmptyBatch() {
+        LocalDate cutoff = LocalDate.now().minusDays(365);
+        when(archiveService.archiveBatch(0, cutoff, BATCH_SIZE)).thenReturn(2, 0);
+
+        scheduler.archivePaidLoans();
+
+        verify(archiveService, times(2)).archiveBatch(0, cutoff, BATCH_SIZE);
+        verify(archiveService, times(1)).archiveBatch(1, cutoff, BATCH_SIZE);
+    }
+
+    @Test
+    void testDisabledArchiverDoesNothing() {
+        ReflectionTestUtils.setField(scheduler, "enabled", false);
+
+        scheduler.archivePaidLoans();
+
+        verify(archiveService, never()).archiveBatch(anyInt(), any(), anyInt());
+    }
+}
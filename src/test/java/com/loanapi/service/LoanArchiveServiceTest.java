@@ -0,0 +1,89 @@
+package com.loanapi.service;
+
+import com.loanapi.config.ShardContext;
+import com.loanapi.entity.Loan;
+import com.loanapi.repository.ArchivedLoanRepository;
+import com.loanapi.repository.LoanInstallmentRepository;
+import com.loanapi.repository.LoanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class LoanArchiveServiceTest {
+
+    private static final Long CUSTOMER_ID = 1001L;
+    // The default context runs a single shard
+    private static final int SHARD = 0;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanArchiveService archiveService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanInstallmentRepository installmentRepository;
+
+    @Autowired
+    private ArchivedLoanRepository archivedLoanRepository;
+
+    @Test
+    void testArchiveMovesOldPaidLoans() {
+        LocalDate longAgo = LocalDate.now().minusYears(2);
+        Loan oldPaid = createLoan(longAgo, longAgo.plusMonths(6));
+        Loan recentPaid = createLoan(LocalDate.now(), LocalDate.now());
+        // Created long ago but paid off early yesterday: its age counts from the payoff
+        Loan oldRecentlyPaid = createLoan(longAgo, LocalDate.now().minusDays(1));
+        Loan oldUnpaid = createLoan(longAgo, null);
+
+        LocalDate cutoff = LocalDate.now().minusYears(1);
+        while (archiveService.archiveBatch(SHARD, cutoff, 1) > 0) {
+            // drain in single-loan batches
+        }
+
+        ShardContext.set(SHARD);
+        try {
+            assertFalse(loanRepository.existsById(oldPaid.getId()));
+            assertEquals(oldPaid.getPaidDate(), archivedLoanRepository.findById(oldPaid.getId()).orElseThrow().getPaidDate());
+            assertTrue(installmentRepository.findByLoanIdAndIsPaidFalseOrderByDueDateAsc(oldPaid.getId()).isEmpty());
+            assertTrue(loanRepository.existsById(recentPaid.getId()));
+            assertTrue(loanRepository.existsById(oldRecentlyPaid.getId()));
+            assertFalse(archivedLoanRepository.existsById(oldRecentlyPaid.getId()));
+            assertTrue(loanRepository.existsById(oldUnpaid.getId()));
+        } finally {
+            ShardContext.clear();
+        }
+
+        assertTrue(loanService.listLoans(CUSTOMER_ID).stream()
+                .noneMatch(loan -> loan.getId().equals(oldPaid.getId())));
+        assertTrue(loanService.listLoans(CUSTOMER_ID, true).stream()
+                .anyMatch(loan -> loan.getId().equals(oldPaid.getId())));
+    }
+
+    private Loan createLoan(LocalDate createDate, LocalDate paidDate) {
+        Loan loan = new Loan();
+        loan.setLoanAmount(BigDecimal.valueOf(1000));
+        loan.setNumberOfInstallments(6);
+        loan.setInterestRate(BigDecimal.valueOf(0.2));
+        loan = loanService.createLoan(CUSTOMER_ID, loan);
+
+        loan.setCreateDate(createDate);
+        loan.setIsPaid(paidDate != null);
+        loan.setPaidDate(paidDate);
+        ShardContext.set(SHARD);
+        try {
+            return loanRepository.save(loan);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.loanapi.service;
+
+import com.loanapi.entity.Loan;
+import com.loanapi.entity.LoanInstallment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class LoanServiceCoalescingTest {
+
+    private static final Long CUSTOMER_ID = 1001L;
+    private static final int READERS = 8;
+    private static final int WRITES = 30;
+
+    @Autowired
+    private LoanService loanService;
+
+    // Readers keep identical queries in flight while the writer checks that every read
+    // started after a committed write sees that write
+    @Test
+    void testReadsAfterWritesSeeTheWrite() throws Exception {
+        Loan firstLoan = createLoan();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                readers.add(executor.submit(() -> {
+                    while (running.get()) {
+                        loanService.listLoans(CUSTOMER_ID);
+                        loanService.listInstallments(firstLoan.getId());
+                    }
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < WRITES; i++) {
+                Loan loan = createLoan();
+                assertTrue(loanService.listLoans(CUSTOMER_ID).stream()
+                        .anyMatch(listed -> listed.getId().equals(loan.getId())));
+
+                int unpaidBefore = loanService.listInstallments(loan.getId()).size();
+                loanService.payLoan(loan.getId(), new BigDecimal("200.00"));
+                List<LoanInstallment> unpaidAfter = loanService.listInstallments(loan.getId());
+                assertEquals(unpaidBefore - 1, unpaidAfter.size());
+            }
+
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            running.set(false);
+            executor.shutdown();
+        }
+    }
+
+    // 1000 at 20% over 6 installments is 200 per installment
+    private Loan createLoan() {
+        Loan loan = new Loan();
+        loan.setLoanAmount(BigDecimal.valueOf(1000));
+        loan.setNumberOfInstallments(6);
+        loan.setInterestRate(BigDecimal.valueOf(0.2));
+        return loanService.createLoan(CUSTOMER_ID, loan);
+    }
+}
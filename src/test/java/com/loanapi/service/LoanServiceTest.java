@@ -1,10 +1,13 @@
 package com.loanapi.service;
 
+import com.loanapi.config.ShardRouter;
 import com.loanapi.dto.PaymentResult;
+import com.loanapi.entity.ArchivedLoan;
 import com.loanapi.entity.Customer;
 import com.loanapi.entity.Loan;
 import com.loanapi.entity.LoanInstallment;
 import com.loanapi.exception.LoanApiException;
+import com.loanapi.repository.ArchivedLoanRepository;
 import com.loanapi.repository.CustomerRepository;
 import com.loanapi.repository.LoanInstallmentRepository;
 import com.loanapi.repository.LoanRepository;
@@ -13,11 +16,18 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
         import static org.mockito.Mockito.*;
@@ -33,6 +43,12 @@ class LoanServiceTest {
     @Mock
     private LoanInstallmentRepository installmentRepository;
 
+    @Mock
+    private ArchivedLoanRepository archivedLoanRepository;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(1);
+
     @InjectMocks
     private LoanService loanService;
 
@@ -76,6 +92,63 @@ class LoanServiceTest {
 
         assertEquals(2, loans.size());
         verify(loanRepository).findByCustomerId(1L);
+        verifyNoInteractions(archivedLoanRepository);
+    }
+
+    @Test
+    void testListLoans_ConcurrentCallsShareOneQuery() throws Exception {
+        int callers = 4;
+        List<Loan> loans = List.of(new Loan());
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(loanRepository.findByCustomerId(1L)).thenAnswer(invocation -> {
+            querying.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return loans;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            // The first caller's query is held open while the others arrive
+            List<Future<List<Loan>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> loanService.listLoans(1L)));
+            assertTrue(querying.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> loanService.listLoans(1L)));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (loanService.getLoanListFlight().getCoalescedCount() < callers - 1) {
+                assertTrue(System.nanoTime() < deadline, "Callers did not join the query in flight");
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<List<Loan>> result : results) {
+                assertSame(loans, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(loanRepository, times(1)).findByCustomerId(1L);
+        assertEquals(1, loanService.getLoanListFlight().getExecutedCount());
+        assertEquals(callers - 1, loanService.getLoanListFlight().getCoalescedCount());
+        assertEquals(0.75, loanService.getLoanListFlight().getCoalescingRatio());
+    }
+
+    @Test
+    void testListLoans_IncludeArchived() {
+        ArchivedLoan archivedLoan = new ArchivedLoan();
+        archivedLoan.setId(3L);
+        when(loanRepository.findByCustomerId(1L)).thenReturn(List.of(new Loan()));
+        when(archivedLoanRepository.findByCustomerId(1L)).thenReturn(List.of(archivedLoan));
+
+        List<Loan> loans = loanService.listLoans(1L, true);
+
+        assertEquals(2, loans.size());
+        assertEquals(3L, loans.get(1).getId());
+        assertTrue(loans.get(1).getIsPaid());
     }
 
     @Test
@@ -123,9 +196,35 @@ class LoanServiceTest {
         assertEquals(1, result.getInstallmentsPaid());
         assertEquals(BigDecimal.valueOf(1000), result.getTotalPaid());
         assertFalse(result.isLoanFullyPaid());
+        assertNull(loan.getPaidDate());
         verify(installmentRepository).saveAll(anyList());
     }
 
+    @Test
+    void testPayLoan_FullPaymentSetsPaidDate() throws LoanApiException {
+        Loan loan = new Loan();
+        loan.setId(1L);
+        loan.setIsPaid(false);
+        loan.setCreateDate(LocalDate.now().minusYears(2));
+
+        LoanInstallment installment = new LoanInstallment();
+        installment.setLoan(loan);
+        installment.setId(1L);
+        installment.setAmount(BigDecimal.valueOf(1000));
+        installment.setIsPaid(false);
+        installment.setDueDate(LocalDate.now());
+
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
+        when(installmentRepository.findByLoanIdAndIsPaidFalseOrderByDueDateAsc(1L))
+                .thenReturn(List.of(installment));
+
+        PaymentResult result = loanService.payLoan(1L, BigDecimal.valueOf(1000));
+
+        assertTrue(result.isLoanFullyPaid());
+        assertEquals(LocalDate.now(), loan.getPaidDate());
+        verify(loanRepository).save(loan);
+    }
+
     @Test
     void testPayLoan_InsufficientPayment() {
         Loan loan = new Loan();
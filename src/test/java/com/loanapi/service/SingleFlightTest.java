@@ -0,0 +1,143 @@
+package com.loanapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void testConcurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "result";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 1; i < CALLERS; i++) {
+                followers.add(executor.submit(() -> flight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (flight.getCoalescedCount() < CALLERS - 1) {
+                assertTrue(System.nanoTime() < deadline, "Followers did not join the in-flight load");
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals("result", leader.get());
+            for (Future<String> follower : followers) {
+                assertEquals("result", follower.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.getExecutedCount());
+        assertEquals(CALLERS - 1, flight.getCoalescedCount());
+        assertEquals((CALLERS - 1) / (double) CALLERS, flight.getCoalescingRatio());
+    }
+
+    @Test
+    void testCompletedLoadIsNotReused() {
+        SingleFlight<Long, Integer> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, flight.execute(1L, loads::incrementAndGet));
+        assertEquals(2, flight.execute(1L, loads::incrementAndGet));
+        assertEquals(0, flight.getCoalescedCount());
+    }
+
+    @Test
+    void testForgottenKeyStartsNewLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = executor.submit(() -> flight.execute(1L, () -> {
+                loading.countDown();
+                await(release);
+                return "before write";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // Outside a transaction the key is forgotten right away
+            flight.forgetAfterCommit(1L);
+
+            assertEquals("after write", flight.execute(1L, () -> "after write"));
+            release.countDown();
+            assertEquals("before write", stale.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testFailureIsSharedAndNotRemembered() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        IllegalArgumentException failure = new IllegalArgumentException("Loan not found");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+                loading.countDown();
+                await(release);
+                throw failure;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            Future<String> follower = executor.submit(() -> flight.execute(1L, () -> "other"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (flight.getCoalescedCount() < 1) {
+                assertTrue(System.nanoTime() < deadline, "Follower did not join the in-flight load");
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertSame(failure, assertThrows(ExecutionException.class, leader::get).getCause());
+            assertSame(failure, assertThrows(ExecutionException.class, follower::get).getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals("ok", flight.execute(1L, () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}